@@ -7,12 +7,13 @@ import org.jasypt.encryption.StringEncryptor;
 import org.jasypt.encryption.pbe.StandardPBEStringEncryptor;
 import org.jasypt.exceptions.EncryptionOperationNotPossibleException;
 import org.jasypt.iv.RandomIvGenerator;
-import org.jasypt.properties.EncryptableProperties;
+import org.jasypt.properties.PropertyValueEncryptionUtils;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -29,26 +30,34 @@ import static java.lang.Integer.parseInt;
  * supports <a href="http://www.jasypt.org/">Jasypt</a>-encoded properties.
  */
 @Slf4j
-public class JasyptConfigSource implements ConfigSource {
+public class JasyptConfigSource implements ConfigSource, AutoCloseable {
     public static final String JASYPT_PASSWORD = "jasypt.password";
     public static final String JASYPT_KEY = "jasypt.key";
     public static final String JASYPT_ALGORITHM = "jasypt.algorithm";
     public static final String JASYPT_ITERATIONS = "jasypt.iterations";
     public static final String JASYPT_PROPERTIES = "jasypt.properties";
+    public static final String JASYPT_OFF_HEAP = "jasypt.offheap";
+    public static final String JASYPT_OFF_HEAP_TTL = "jasypt.offheap.ttl";
 
     private static final Pattern PATTERN = Pattern.compile("[^a-zA-Z0-9_]");
     private static final String CLASSPATH_PREFIX = "classpath:";
     private static final String DECRYPTION_FAILURE_MESSAGE = "Could not decrypt property {}; falling back to unencrypted property";
 
     private final Properties properties;
-    private final EncryptableProperties encryptableProperties;
     private final String propertyFilename;
+    private final boolean containsEncryptedValues;
+    private final OffHeapSecretStore secretStore;
+    private final StringEncryptor encryptor;
 
     public JasyptConfigSource() {
         final PropertiesAndName propertiesAndName = loadProperties();
         this.properties = propertiesAndName.getProperties();
         this.propertyFilename = propertiesAndName.getFilename();
-        this.encryptableProperties = new EncryptableProperties(properties, getEncryptor());
+        this.containsEncryptedValues = containsEncryptedValues(properties);
+        // Jasypt only derives the key and initializes its cipher on the first decryption, so creating the encryptor
+        // here merely resolves its settings. Sources without encrypted values skip even that.
+        this.encryptor = containsEncryptedValues ? getEncryptor() : null;
+        this.secretStore = containsEncryptedValues && isOffHeapSecretStoreEnabled() ? new OffHeapSecretStore(getOffHeapSecretTtl()) : null;
     }
 
     @Override public String getName() {
@@ -82,6 +91,15 @@ public class JasyptConfigSource implements ConfigSource {
         return createStringEncryptor();
     }
 
+    private static boolean containsEncryptedValues(Properties properties) {
+        for (final String name : properties.stringPropertyNames()) {
+            if (PropertyValueEncryptionUtils.isEncryptedValue(properties.getProperty(name))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     protected StringEncryptor createStringEncryptor() {
         StandardPBEStringEncryptor encryptor = new StandardPBEStringEncryptor();
         encryptor.setPassword(property(JASYPT_PASSWORD, () -> property(JASYPT_KEY, getDefaultPassword())));
@@ -114,6 +132,22 @@ public class JasyptConfigSource implements ConfigSource {
         return " ";
     }
 
+    /**
+     * Whether decrypted values are kept off-heap and wiped once their TTL expires or on {@link #close()}. Disabled by
+     * default, in which case encrypted values are decrypted on every read.
+     */
+    protected boolean isOffHeapSecretStoreEnabled() {
+        return Boolean.parseBoolean(property(JASYPT_OFF_HEAP, "false"));
+    }
+
+    /**
+     * Time after which an off-heap decrypted value is wiped and decrypted again on its next read: 300 seconds. Zero or
+     * negative keeps values until {@link #close()}.
+     */
+    protected Duration getOffHeapSecretTtl() {
+        return Duration.ofSeconds(Long.parseLong(property(JASYPT_OFF_HEAP_TTL, "300")));
+    }
+
     /**
      * Comma-separated property filenames, resolved from filesystem or classpath if prefixed with <code>classpath:</code>.
      */
@@ -162,22 +196,46 @@ public class JasyptConfigSource implements ConfigSource {
 
     @Override public Map<String, String> getProperties() {
         final Map<String, String> propertyMap = new HashMap<>();
-        for (final String name : encryptableProperties.stringPropertyNames()) {
+        for (final String name : properties.stringPropertyNames()) {
             propertyMap.put(name, getValue(name));
         }
         return propertyMap;
     }
 
     @Override public String getValue(String key) {
+        final String value = properties.getProperty(key);
+        if (!containsEncryptedValues || !PropertyValueEncryptionUtils.isEncryptedValue(value)) {
+            return value;
+        }
+        if (secretStore != null) {
+            final String decryptedValue = secretStore.get(key);
+            if (decryptedValue != null) {
+                return decryptedValue;
+            }
+        }
         try {
-            return encryptableProperties.getProperty(key);
+            final String decryptedValue = PropertyValueEncryptionUtils.decrypt(value, encryptor);
+            if (secretStore != null) {
+                secretStore.put(key, decryptedValue);
+            }
+            return decryptedValue;
         } catch (EncryptionOperationNotPossibleException e) {
             if (log.isDebugEnabled()) {
                 log.debug(DECRYPTION_FAILURE_MESSAGE, key, e);
             } else {
                 log.warn(DECRYPTION_FAILURE_MESSAGE, key);
             }
-            return properties.getProperty(key);
+            return value;
+        }
+    }
+
+    /**
+     * Wipes all decrypted values held in the off-heap secret store, if enabled. Encrypted values read afterwards are
+     * decrypted on every read and no longer stored.
+     */
+    @Override public void close() {
+        if (secretStore != null) {
+            secretStore.close();
         }
     }
 
@@ -0,0 +1,248 @@
+package com.github.chrisgleissner.config.microprofile.jasypt;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Keeps decrypted property values as UTF-8 bytes in direct (off-heap) buffers. Values are only turned into a
+ * <code>String</code> when read, and their bytes are overwritten with zeros when they expire, are evicted, or when the
+ * store is closed. A closed store no longer accepts values.
+ * <p>
+ * Buffers are never replaced once stored. Reads copy under a shared lock and wiping happens under an exclusive lock,
+ * so a reader never observes a partially or fully wiped buffer.
+ * <p>
+ * Expired values are wiped in the background, at the latest twice the TTL after they were stored. The background task
+ * only runs while the store holds values and only references the store weakly. If a store is garbage collected without
+ * being closed, its remaining values are wiped on the task's next run.
+ */
+class OffHeapSecretStore implements AutoCloseable {
+    private final Map<String, Entry> secrets = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final IntFunction<ByteBuffer> bufferFactory;
+    private final ScheduledExecutorService evictionExecutor;
+    private ScheduledFuture<?> eviction;
+    private volatile boolean closed;
+
+    /**
+     * @param ttl time after which a value is wiped; zero or negative to keep values until evicted or closed
+     */
+    OffHeapSecretStore(Duration ttl) {
+        this(ttl, System::nanoTime, ByteBuffer::allocateDirect, EvictionExecutor.INSTANCE);
+    }
+
+    OffHeapSecretStore(Duration ttl, LongSupplier nanoClock, IntFunction<ByteBuffer> bufferFactory,
+                       ScheduledExecutorService evictionExecutor) {
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.bufferFactory = bufferFactory;
+        this.evictionExecutor = evictionExecutor;
+    }
+
+    /**
+     * Stores the value unless one is already present for the key or the store is closed.
+     */
+    void put(String key, String value) {
+        final byte[] bytes = value.getBytes(UTF_8);
+        final ByteBuffer buffer = bufferFactory.apply(bytes.length);
+        buffer.put(bytes).flip();
+        Arrays.fill(bytes, (byte) 0);
+        boolean stored = false;
+        lock.readLock().lock();
+        try {
+            stored = !closed && secrets.putIfAbsent(key, new Entry(buffer, nanoClock.getAsLong())) == null;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (stored) {
+            scheduleEviction();
+        } else {
+            wipe(buffer);
+        }
+    }
+
+    /**
+     * Returns the value for the key, or <code>null</code> if absent, expired or the store is closed.
+     */
+    String get(String key) {
+        final Entry entry;
+        lock.readLock().lock();
+        try {
+            entry = secrets.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (!isExpired(entry)) {
+                final byte[] bytes = new byte[entry.buffer.remaining()];
+                entry.buffer.duplicate().get(bytes);
+                try {
+                    return new String(bytes, UTF_8);
+                } finally {
+                    Arrays.fill(bytes, (byte) 0);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        evict(key, entry);
+        return null;
+    }
+
+    void evict(String key) {
+        lock.writeLock().lock();
+        try {
+            final Entry entry = secrets.remove(key);
+            if (entry != null) {
+                wipe(entry.buffer);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        cancelEvictionIfEmpty();
+    }
+
+    void evictExpired() {
+        lock.writeLock().lock();
+        try {
+            for (final Iterator<Entry> it = secrets.values().iterator(); it.hasNext(); ) {
+                final Entry entry = it.next();
+                if (isExpired(entry)) {
+                    it.remove();
+                    wipe(entry.buffer);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        cancelEvictionIfEmpty();
+    }
+
+    int size() {
+        return secrets.size();
+    }
+
+    @Override public void close() {
+        lock.writeLock().lock();
+        try {
+            closed = true;
+            wipeAll(secrets);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        cancelEvictionIfEmpty();
+    }
+
+    private void evict(String key, Entry entry) {
+        lock.writeLock().lock();
+        try {
+            if (secrets.remove(key, entry)) {
+                wipe(entry.buffer);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        cancelEvictionIfEmpty();
+    }
+
+    private synchronized void scheduleEviction() {
+        if (ttlNanos > 0 && eviction == null && !closed && !secrets.isEmpty()) {
+            final EvictionTask task = new EvictionTask(this);
+            eviction = task.future = evictionExecutor.scheduleWithFixedDelay(task, ttlNanos, ttlNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private synchronized void cancelEvictionIfEmpty() {
+        if (eviction != null && secrets.isEmpty()) {
+            eviction.cancel(false);
+            eviction = null;
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ttlNanos > 0 && nanoClock.getAsLong() - entry.storedAt >= ttlNanos;
+    }
+
+    private static void wipeAll(Map<String, Entry> secrets) {
+        for (final Entry entry : secrets.values()) {
+            wipe(entry.buffer);
+        }
+        secrets.clear();
+    }
+
+    private static void wipe(ByteBuffer buffer) {
+        for (int i = 0; i < buffer.capacity(); i++) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    private static final class Entry {
+        private final ByteBuffer buffer;
+        private final long storedAt;
+
+        private Entry(ByteBuffer buffer, long storedAt) {
+            this.buffer = buffer;
+            this.storedAt = storedAt;
+        }
+    }
+
+    /**
+     * Holds the store weakly so that an unclosed, unreachable store can still be collected. Once that happens, the
+     * task wipes the values left behind and cancels itself.
+     */
+    private static final class EvictionTask implements Runnable {
+        private final WeakReference<OffHeapSecretStore> store;
+        private final Map<String, Entry> secrets;
+        private volatile ScheduledFuture<?> future;
+
+        private EvictionTask(OffHeapSecretStore store) {
+            this.store = new WeakReference<>(store);
+            this.secrets = store.secrets;
+        }
+
+        @Override public void run() {
+            final OffHeapSecretStore store = this.store.get();
+            if (store != null) {
+                store.evictExpired();
+            } else {
+                wipeAll(secrets);
+                final ScheduledFuture<?> future = this.future;
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        }
+    }
+
+    private static final class EvictionExecutor {
+        private static final ScheduledExecutorService INSTANCE = create();
+
+        private static ScheduledExecutorService create() {
+            final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+                final Thread thread = new Thread(r, "jasypt-offheap-eviction");
+                thread.setDaemon(true);
+                thread.setContextClassLoader(null);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            executor.setKeepAliveTime(1, TimeUnit.MINUTES);
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.github.chrisgleissner.config.microprofile.jasypt;
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigProvider;
 import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.jasypt.encryption.StringEncryptor;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,11 +12,13 @@ import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import static com.github.chrisgleissner.config.microprofile.jasypt.JasyptConfigSource.JASYPT_KEY;
+import static com.github.chrisgleissner.config.microprofile.jasypt.JasyptConfigSource.JASYPT_OFF_HEAP;
 import static com.github.chrisgleissner.config.microprofile.jasypt.JasyptConfigSource.JASYPT_PASSWORD;
 import static com.github.chrisgleissner.config.microprofile.jasypt.JasyptConfigSource.JASYPT_PROPERTIES;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -30,6 +33,12 @@ class JasyptConfigSourceTest {
         return new JasyptConfigSource();
     }
 
+    private CountingJasyptConfigSource createCountingJasyptConfigSource() {
+        System.setProperty(JASYPT_PASSWORD, PWD);
+        System.setProperty(JASYPT_PROPERTIES, "src/test/resources/application.properties");
+        return new CountingJasyptConfigSource();
+    }
+
     @Test
     void getValue() {
         JasyptConfigSource jcs = createJasyptConfigSource();
@@ -97,6 +106,68 @@ class JasyptConfigSourceTest {
         assertThat(jcs.getValue("a")).isEqualTo("1");
     }
 
+    @Test
+    void encryptorIsNotCreatedIfNoEncryptedValuesPresent() {
+        System.setProperty(JASYPT_PASSWORD, PWD);
+        System.setProperty(JASYPT_PROPERTIES, "src/test/resources/plain.properties");
+        CountingJasyptConfigSource jcs = new CountingJasyptConfigSource();
+        assertThat(jcs.getProperties()).containsEntry("a", "1").containsEntry("c", "3");
+        assertThat(jcs.encryptorCreations.get()).isZero();
+    }
+
+    @Test
+    void encryptorIsCreatedOnceIfEncryptedValuesPresent() {
+        CountingJasyptConfigSource jcs = createCountingJasyptConfigSource();
+        assertThat(jcs.encryptorCreations.get()).isOne();
+        assertThat(jcs.getValue("a")).isEqualTo("1");
+        assertThat(jcs.getValue("b")).isEqualTo("2");
+        assertThat(jcs.getValue("b")).isEqualTo("2");
+        assertThat(jcs.encryptorCreations.get()).isOne();
+    }
+
+    @Test
+    void decryptsWithPasswordResolvedOnConstruction() {
+        JasyptConfigSource jcs = createJasyptConfigSource();
+        System.clearProperty(JASYPT_PASSWORD);
+        assertThat(jcs.getValue("b")).isEqualTo("2");
+    }
+
+    @Test
+    void decryptsOnEveryReadIfOffHeapSecretStoreDisabled() {
+        CountingJasyptConfigSource jcs = createCountingJasyptConfigSource();
+        assertThat(jcs.getValue("b")).isEqualTo("2");
+        assertThat(jcs.getValue("b")).isEqualTo("2");
+        assertThat(jcs.decryptions.get()).isEqualTo(2);
+    }
+
+    @Test
+    void offHeapSecretStoreDecryptsOnce() {
+        System.setProperty(JASYPT_OFF_HEAP, "true");
+        try (CountingJasyptConfigSource jcs = createCountingJasyptConfigSource()) {
+            assertThat(jcs.getValue("b")).isEqualTo("2");
+            assertThat(jcs.getValue("b")).isEqualTo("2");
+            assertThat(jcs.getProperties()).containsEntry("a", "1").containsEntry("b", "2");
+            assertThat(jcs.decryptions.get()).isOne();
+        } finally {
+            System.clearProperty(JASYPT_OFF_HEAP);
+        }
+    }
+
+    @Test
+    void offHeapSecretStoreIsNotUsedAfterClose() {
+        System.setProperty(JASYPT_OFF_HEAP, "true");
+        CountingJasyptConfigSource jcs = createCountingJasyptConfigSource();
+        try {
+            assertThat(jcs.getValue("b")).isEqualTo("2");
+            jcs.close();
+            assertThat(jcs.getValue("b")).isEqualTo("2");
+            assertThat(jcs.getValue("b")).isEqualTo("2");
+            assertThat(jcs.decryptions.get()).isEqualTo(3);
+        } finally {
+            System.clearProperty(JASYPT_OFF_HEAP);
+        }
+    }
+
     @Test
     void encodingViaMainMethod() {
         ByteArrayOutputStream outContent = new ByteArrayOutputStream();
@@ -122,4 +193,24 @@ class JasyptConfigSourceTest {
         assertThat(jcs.toString()).isEqualTo(jcs.getName());
         assertThat(jcs.getProperties().size()).isEqualTo(2);
     }
+
+    private static class CountingJasyptConfigSource extends JasyptConfigSource {
+        private final AtomicInteger encryptorCreations = new AtomicInteger();
+        private final AtomicInteger decryptions = new AtomicInteger();
+
+        @Override protected StringEncryptor getEncryptor() {
+            encryptorCreations.incrementAndGet();
+            final StringEncryptor encryptor = super.getEncryptor();
+            return new StringEncryptor() {
+                @Override public String encrypt(String message) {
+                    return encryptor.encrypt(message);
+                }
+
+                @Override public String decrypt(String encryptedMessage) {
+                    decryptions.incrementAndGet();
+                    return encryptor.decrypt(encryptedMessage);
+                }
+            };
+        }
+    }
 }
\ No newline at end of file
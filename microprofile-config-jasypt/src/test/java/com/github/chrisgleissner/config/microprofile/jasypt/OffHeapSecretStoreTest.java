@@ -0,0 +1,153 @@
+package com.github.chrisgleissner.config.microprofile.jasypt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapSecretStoreTest {
+    private final AtomicLong nanos = new AtomicLong();
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+    private final ScheduledThreadPoolExecutor executor = createExecutor();
+    private final OffHeapSecretStore store = createStore(Duration.ofSeconds(10));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void putAndGet() {
+        store.put("a", "secret-ä");
+        assertThat(store.get("a")).isEqualTo("secret-ä");
+        assertThat(store.get("a")).isEqualTo("secret-ä");
+        assertThat(store.get("b")).isNull();
+    }
+
+    @Test
+    void putKeepsExistingValueAndWipesNewOne() {
+        store.put("a", "1");
+        store.put("a", "22");
+        assertThat(store.get("a")).isEqualTo("1");
+        assertThat(store.size()).isOne();
+        assertThat(buffers).hasSize(2);
+        assertThat(buffers.get(0).get(0)).isEqualTo((byte) '1');
+        assertWiped(buffers.get(1));
+    }
+
+    @Test
+    void evictWipesValue() {
+        store.put("a", "secret");
+        store.evict("a");
+        assertThat(store.get("a")).isNull();
+        assertThat(store.size()).isZero();
+        assertWiped(buffers.get(0));
+    }
+
+    @Test
+    void expiredValueIsWipedOnRead() {
+        store.put("a", "secret");
+        nanos.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThat(store.get("a")).isEqualTo("secret");
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(store.get("a")).isNull();
+        assertThat(store.size()).isZero();
+        assertWiped(buffers.get(0));
+    }
+
+    @Test
+    void evictExpiredWipesOnlyExpiredValues() {
+        store.put("a", "secret");
+        nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+        store.put("b", "other");
+        nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+        store.evictExpired();
+        assertThat(store.size()).isOne();
+        assertThat(store.get("b")).isEqualTo("other");
+        assertWiped(buffers.get(0));
+    }
+
+    @Test
+    void valuesDoNotExpireWithoutTtl() {
+        OffHeapSecretStore unboundedStore = createStore(Duration.ZERO);
+        unboundedStore.put("a", "secret");
+        nanos.addAndGet(Duration.ofDays(365).toNanos());
+        unboundedStore.evictExpired();
+        assertThat(unboundedStore.get("a")).isEqualTo("secret");
+        assertThat(executor.getQueue()).isEmpty();
+    }
+
+    @Test
+    void closeWipesAllValuesAndRejectsNewOnes() {
+        store.put("a", "1");
+        store.put("b", "2");
+        store.close();
+        assertThat(store.get("a")).isNull();
+        assertThat(store.get("b")).isNull();
+        assertWiped(buffers.get(0));
+        assertWiped(buffers.get(1));
+        store.put("a", "1");
+        assertThat(store.get("a")).isNull();
+        assertThat(store.size()).isZero();
+        assertWiped(buffers.get(2));
+    }
+
+    @Test
+    void evictionIsOnlyScheduledWhileValuesAreStored() {
+        assertThat(executor.getQueue()).isEmpty();
+        store.put("a", "1");
+        store.put("b", "2");
+        assertThat(executor.getQueue()).hasSize(1);
+        store.evict("a");
+        assertThat(executor.getQueue()).hasSize(1);
+        store.evict("b");
+        assertThat(executor.getQueue()).isEmpty();
+        store.put("a", "1");
+        assertThat(executor.getQueue()).hasSize(1);
+        store.close();
+        assertThat(executor.getQueue()).isEmpty();
+    }
+
+    @Test
+    void expiredValuesAreWipedInBackground() throws InterruptedException {
+        OffHeapSecretStore scheduledStore = new OffHeapSecretStore(Duration.ofMillis(50), System::nanoTime,
+                this::allocate, executor);
+        scheduledStore.put("a", "secret");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduledStore.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(scheduledStore.size()).isZero();
+        assertWiped(buffers.get(0));
+        assertThat(executor.getQueue()).isEmpty();
+    }
+
+    private OffHeapSecretStore createStore(Duration ttl) {
+        return new OffHeapSecretStore(ttl, nanos::get, this::allocate, executor);
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(capacity);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private static ScheduledThreadPoolExecutor createExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private static void assertWiped(ByteBuffer buffer) {
+        for (int i = 0; i < buffer.capacity(); i++) {
+            assertThat(buffer.get(i)).as("byte %d", i).isZero();
+        }
+    }
+}